@@ -2,7 +2,9 @@ package com.cos.book;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling // BookSnapshotService
 @SpringBootApplication
 public class BookApplication {
 
@@ -0,0 +1,21 @@
+package com.cos.book.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 저자별 책 권수 요약 테이블 (재시작시 집계를 다시 하지 않기 위해 저장해둔다)
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+public class AuthorStat {
+
+	@Id
+	private String author;
+	private long bookCount;
+
+}
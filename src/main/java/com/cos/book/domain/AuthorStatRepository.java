@@ -0,0 +1,32 @@
+package com.cos.book.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AuthorStatRepository extends JpaRepository<AuthorStat, String>{
+
+	// 행이 없으면 만들고 있으면 더한다. (한 문장이라 동시에 처음 들어와도 중복키 에러가 안난다)
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT INTO AuthorStat (author, bookCount) VALUES (:author, :delta) ON DUPLICATE KEY UPDATE bookCount = bookCount + :delta", nativeQuery = true)
+	int upsertBookCount(@Param("author") String author, @Param("delta") long delta);
+
+	// 요약 재구성용. 여러 서버가 동시에 해도 같은 값으로 덮어쓴다.
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT INTO AuthorStat (author, bookCount) VALUES (:author, :count) ON DUPLICATE KEY UPDATE bookCount = :count", nativeQuery = true)
+	int putBookCount(@Param("author") String author, @Param("count") long count);
+
+	@Transactional
+	@Modifying
+	@Query("update AuthorStat s set s.bookCount = s.bookCount + :delta where s.author = :author")
+	int addBookCount(@Param("author") String author, @Param("delta") long delta);
+
+	@Transactional
+	@Modifying
+	@Query("delete from AuthorStat s where s.author = :author and s.bookCount <= 0")
+	int deleteIfEmpty(@Param("author") String author);
+}
@@ -4,6 +4,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,5 +21,11 @@ public class Book {
 	private Long id;
 	private String title;
 	private String author;
+	
+	@Version
+	private Long version; // 수정될 때마다 증가한다. (캐시, 스냅샷 비교용)
 
+	public Book(Long id, String title, String author) {
+		this(id, title, author, null);
+	}
 }
@@ -1,7 +1,28 @@
 package com.cos.book.domain;
 
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface BookRepository extends JpaRepository<Book, Long>{
 
+	// idx_book_author_title 을 탄다. (정렬은 title, id 로 해야 인덱스 순서 그대로 읽는다)
+	Page<Book> findByAuthor(String author, Pageable pageable);
+	
+	// LIKE 'prefix%' 라서 idx_book_title 범위 검색이 된다.
+	Page<Book> findByTitleStartingWith(String prefix, Pageable pageable);
+
+	// 요약 테이블이 비어있을 때 한번만 사용한다. (row[0] = author, row[1] = count)
+	@Query("select b.author, count(b) from Book b where b.author is not null group by b.author")
+	List<Object[]> countGroupByAuthor();
+	
+	// 스냅샷 맞추기용 (row[0] = id, row[1] = version)
+	@Query("select b.id, b.version from Book b where b.id <= :maxId")
+	List<Object[]> findIdAndVersionUpTo(@Param("maxId") Long maxId);
+	
+	List<Book> findByIdGreaterThan(Long id);
 }
@@ -0,0 +1,23 @@
+package com.cos.book.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 카탈로그 전체 요약 (name = "total" 이면 전체 책 권수)
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+public class CatalogStat {
+
+	public static final String TOTAL = "total";
+
+	@Id
+	private String name;
+	private long bookCount;
+
+}
@@ -0,0 +1,21 @@
+package com.cos.book.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CatalogStatRepository extends JpaRepository<CatalogStat, String>{
+
+	// 행이 없으면 만들고 있으면 더한다. (한 문장이라 동시에 처음 들어와도 중복키 에러가 안난다)
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT INTO CatalogStat (name, bookCount) VALUES (:name, :delta) ON DUPLICATE KEY UPDATE bookCount = bookCount + :delta", nativeQuery = true)
+	int addBookCount(@Param("name") String name, @Param("delta") long delta);
+
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT INTO CatalogStat (name, bookCount) VALUES (:name, :count) ON DUPLICATE KEY UPDATE bookCount = :count", nativeQuery = true)
+	int putBookCount(@Param("name") String name, @Param("count") long count);
+}
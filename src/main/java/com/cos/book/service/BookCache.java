@@ -0,0 +1,104 @@
+package com.cos.book.service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.cos.book.domain.Book;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 한건가져오기 용 읽기 캐시 (id -> Book)
+ * book.snapshot.enabled 일 때만 동작한다. 꺼져 있으면 get 은 항상 null, put 은 무시한다.
+ * 
+ * (1) 같은 id 라면 version 이 더 높은 쪽만 남긴다. 늦게 도착한 옛날 값이 새 값을 덮어쓰지 않게 하기 위함.
+ * (2) 삭제된 id 는 삭제될 때의 version 으로 묘비(tombstone)를 남긴다. 그 version 이하의 put 은 거절한다.
+ * (3) 서버끼리 무효화를 주고받지 않으므로 다른 서버에서 수정된 값은 ttl 까지만 오래된 값으로 보일 수 있다.
+ */
+@Lazy(false) // fast 프로파일(lazy-initialization)에서도 시작할 때 만든다.
+@Component
+public class BookCache {
+
+	private final boolean enabled;
+	private final ConcurrentMap<Long, Entry> entries;
+
+	public BookCache(@Value("${book.snapshot.enabled}") boolean enabled,
+			@Value("${book.cache.max-size}") long maxSize,
+			@Value("${book.cache.ttl-seconds}") long ttlSeconds) {
+		this.enabled = enabled;
+		this.entries = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+				.<Long, Entry>build()
+				.asMap();
+	}
+
+	public Book get(Long id) {
+		if (!enabled) {
+			return null;
+		}
+		Entry entry = entries.get(id);
+		return entry == null ? null : entry.book;
+	}
+
+	public void put(Book book) {
+		if (!enabled) {
+			return;
+		}
+		entries.merge(book.getId(), new Entry(book, version(book)), BookCache::newer);
+	}
+
+	public void putAll(Collection<Book> books) {
+		books.forEach(this::put);
+	}
+
+	// 삭제 커밋 후에 호출한다. version 은 삭제된 Book 의 version
+	public void evict(Long id, Long version) {
+		if (!enabled) {
+			return;
+		}
+		entries.merge(id, new Entry(null, version == null ? -1 : version), BookCache::newer);
+	}
+
+	public Set<Long> ids() {
+		return entries.entrySet().stream()
+				.filter(e -> e.getValue().book != null)
+				.map(e -> e.getKey())
+				.collect(Collectors.toSet());
+	}
+
+	public int size() {
+		return ids().size();
+	}
+
+	public static long version(Book book) {
+		return book.getVersion() == null ? -1 : book.getVersion();
+	}
+
+	// 묘비는 같은 version 의 Book 을 이긴다. (삭제 전에 읽은 값이 다시 들어오는 것을 막는다)
+	private static Entry newer(Entry old, Entry now) {
+		if (now.book == null) {
+			return now.version >= old.version ? now : old;
+		}
+		if (old.book == null) {
+			return now.version > old.version ? now : old;
+		}
+		return now.version >= old.version ? now : old;
+	}
+
+	private static class Entry {
+		private final Book book; // null 이면 묘비
+		private final long version;
+
+		Entry(Book book, long version) {
+			this.book = book;
+			this.version = version;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.cos.book.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cos.book.domain.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * GET /book/{id} 응답 바이트 캐시 (id -> version, json, gzip)
+ * version 이 같으면 Jackson 직렬화를 다시 하지 않고 만들어둔 바이트를 그대로 내려준다.
+ * 수정하기/삭제하기 커밋 후에 evict 된다. (version 이 달라져도 다시 만든다)
+ */
+@Component
+public class BookJsonCache {
+
+	private final ObjectMapper objectMapper; // 스프링이 쓰는 것과 같은 설정으로 직렬화해야 한다.
+	private final ConcurrentMap<Long, Entry> entries;
+
+	public BookJsonCache(ObjectMapper objectMapper, @Value("${book.cache.max-size}") long maxSize) {
+		this.objectMapper = objectMapper;
+		this.entries = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.<Long, Entry>build()
+				.asMap();
+	}
+
+	public Entry get(Book book) {
+		long version = BookCache.version(book);
+		Entry entry = entries.get(book.getId());
+		if (entry != null && entry.version == version) {
+			return entry;
+		}
+		Entry created = create(book, version);
+		return entries.merge(book.getId(), created, (old, now) -> now.version >= old.version ? now : old);
+	}
+
+	public void evict(Long id) {
+		entries.remove(id);
+	}
+
+	private Entry create(Book book, long version) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(book);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+				gzip.write(json);
+			}
+			return new Entry(version, json, bytes.toByteArray());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	public static class Entry {
+		private final long version;
+		private final byte[] json;
+		private final byte[] gzip;
+	}
+}
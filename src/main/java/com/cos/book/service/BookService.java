@@ -2,11 +2,17 @@ package com.cos.book.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cos.book.domain.AuthorStat;
 import com.cos.book.domain.Book;
 import com.cos.book.domain.BookRepository;
+import com.cos.book.web.dto.BookStatsRespDto;
 
 import lombok.RequiredArgsConstructor;
 
@@ -15,35 +21,89 @@ import lombok.RequiredArgsConstructor;
 public class BookService {
 
 	private final BookRepository bookRepository;
+	private final BookStatService bookStatService;
+	private final BookCache bookCache;
+	private final BookJsonCache bookJsonCache;
 	
 	@Transactional
 	public Book 저장하기(Book book) {
-		return bookRepository.save(book);
+		// 저장하기는 추가만 한다. id, version 이 넘어오면 save 가 merge 로 기존 책을 덮어쓰기 때문.
+		book.setId(null);
+		book.setVersion(null);
+		Book bookEntity = bookRepository.save(book);
+		bookStatService.추가하기(bookEntity.getAuthor());
+		return bookEntity;
 	}
 	
 	@Transactional(readOnly = true)
 	public Book 한건가져오기(Long id) {
-		return bookRepository.findById(id)
+		Book cached = bookCache.get(id); // snapshot 이 꺼져 있으면 항상 null
+		if (cached != null) {
+			return cached;
+		}
+		Book bookEntity = bookRepository.findById(id)
 			.orElseThrow(()-> new IllegalArgumentException("Book id를 확인해주세요."));
+		AfterCommit.run(() -> bookCache.put(bookEntity)); // 롤백된 값은 캐시에 넣지 않는다.
+		return bookEntity;
 	}
 	
 	@Transactional(readOnly = true)
 	public List<Book> 모두가져오기() {
-		return bookRepository.findAll();
+		// 정렬이 없으면 DB 가 covering 인덱스(idx_book_title)로 읽어서 제목순으로 나올 수 있다.
+		return bookRepository.findAll(Sort.by("id"));
+	}
+	
+	@Transactional(readOnly = true)
+	public Page<Book> 저자로가져오기(String author, Pageable pageable) {
+		return bookRepository.findByAuthor(author, 인덱스순서(pageable));
+	}
+	
+	@Transactional(readOnly = true)
+	public Page<Book> 제목으로가져오기(String prefix, Pageable pageable) {
+		if (prefix == null || prefix.isEmpty()) {
+			throw new IllegalArgumentException("제목을 한글자 이상 입력해주세요.");
+		}
+		return bookRepository.findByTitleStartingWith(prefix, 인덱스순서(pageable));
+	}
+	
+	// 정렬은 인덱스 순서(title, id)로 고정한다. 다른 정렬은 filesort 가 생긴다.
+	private Pageable 인덱스순서(Pageable pageable) {
+		return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("title", "id"));
 	}
 	
 	@Transactional
 	public Book 수정하기(Long id, Book book) {
 		Book bookEntity = bookRepository.findById(id)
 			.orElseThrow(()-> new IllegalArgumentException("Book id를 확인해주세요."));
+		bookStatService.변경하기(bookEntity.getAuthor(), book.getAuthor());
 		bookEntity.setTitle(book.getTitle());
 		bookEntity.setAuthor(book.getAuthor());
+		AfterCommit.run(() -> {
+			bookCache.put(bookEntity); // 커밋시 version 이 올라간 상태로 들어간다.
+			bookJsonCache.evict(id);
+		});
 		return bookEntity;
 	}
 	
 	@Transactional
 	public String 삭제하기(Long id) {
+		bookRepository.findById(id).ifPresent(bookEntity -> {
+			bookStatService.제거하기(bookEntity.getAuthor());
+			Long version = bookEntity.getVersion();
+			AfterCommit.run(() -> {
+				bookCache.evict(id, version); // 묘비를 남겨서 늦게 온 put 을 막는다.
+				bookJsonCache.evict(id);
+			});
+		});
 		bookRepository.deleteById(id);
 		return "ok";
 	}
+	
+	public BookStatsRespDto 통계가져오기() {
+		return bookStatService.통계가져오기();
+	}
+	
+	public List<AuthorStat> 상위저자가져오기(int top) {
+		return bookStatService.상위저자가져오기(top);
+	}
 }
@@ -0,0 +1,177 @@
+package com.cos.book.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cos.book.domain.Book;
+import com.cos.book.domain.BookRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Book 카탈로그 스냅샷
+ * (1) 주기적으로 전체 Book 을 바이너리 파일로 저장한다.
+ * (2) 시작할 때 파일을 mmap 해서 BookCache 를 채운다. (ApplicationRunner 라서 ready 전에 끝난다)
+ * (3) DB 와 맞추기는 백그라운드에서 한다. 스냅샷의 maxId 보다 큰 id 는 새로 읽고, 나머지는 version 만 비교한다.
+ * 
+ * 파일 구조 : MAGIC(int) FORMAT(int) maxId(long) count(int) [id(long) version(long) title author]...
+ * 문자열은 길이(int, null 이면 -1) + UTF-8 바이트
+ */
+@Slf4j
+@ConditionalOnProperty(prefix = "book.snapshot", name = "enabled", havingValue = "true")
+@Service
+public class BookSnapshotService implements ApplicationRunner {
+
+	private static final int MAGIC = 0x424F4F4B; // "BOOK"
+	private static final int FORMAT = 1;
+	private static final int MIN_RECORD_BYTES = 24; // id(8) + version(8) + 문자열 길이 2개(4 + 4)
+
+	private final BookRepository bookRepository;
+	private final BookCache bookCache;
+	private final Path path;
+
+	public BookSnapshotService(BookRepository bookRepository, BookCache bookCache,
+			@Value("${book.snapshot.path}") String path) {
+		this.bookRepository = bookRepository;
+		this.bookCache = bookCache;
+		this.path = Paths.get(path);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long maxId = 불러오기();
+		Thread reconciler = new Thread(() -> 맞추기(maxId), "book-snapshot-reconciler");
+		reconciler.setDaemon(true);
+		reconciler.start();
+	}
+
+	@Scheduled(initialDelayString = "${book.snapshot.interval-ms}", fixedDelayString = "${book.snapshot.interval-ms}")
+	public void 저장하기() throws IOException {
+		List<Book> books = bookRepository.findAll(Sort.by("id"));
+		long maxId = books.isEmpty() ? 0 : books.get(books.size() - 1).getId();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT);
+			out.writeLong(maxId);
+			out.writeInt(books.size());
+			for (Book book : books) {
+				out.writeLong(book.getId());
+				out.writeLong(book.getVersion() == null ? 0 : book.getVersion());
+				writeString(out, book.getTitle());
+				writeString(out, book.getAuthor());
+			}
+		}
+
+		// 쓰다가 죽어도 이전 스냅샷은 남아있도록 임시파일에 쓰고 옮긴다.
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.write(tmp, bytes.toByteArray());
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		log.info("book snapshot 저장 : {}건, maxId={}", books.size(), maxId);
+	}
+
+	// 스냅샷의 maxId 를 돌려준다. 파일이 없거나 깨졌으면 0
+	long 불러오기() {
+		if (!Files.exists(path)) {
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buf.remaining() < 20 || buf.getInt() != MAGIC || buf.getInt() != FORMAT) {
+				log.warn("book snapshot 형식이 맞지 않아 무시합니다 : {}", path);
+				return 0;
+			}
+			long maxId = buf.getLong();
+			int count = buf.getInt();
+			if (count < 0 || (long) count * MIN_RECORD_BYTES > buf.remaining()) { // 깨진 헤더로 큰 배열을 만들지 않게
+				log.warn("book snapshot 건수({})가 파일 크기와 맞지 않아 무시합니다 : {}", count, path);
+				return 0;
+			}
+			List<Book> books = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				long id = buf.getLong();
+				long version = buf.getLong();
+				books.add(new Book(id, readString(buf), readString(buf), version));
+			}
+			bookCache.putAll(books);
+			log.info("book snapshot 불러오기 : {}건, maxId={}", count, maxId);
+			return maxId;
+		} catch (IOException | RuntimeException e) {
+			log.warn("book snapshot 을 읽지 못했습니다 : {}", path, e);
+			return 0;
+		}
+	}
+
+	void 맞추기(long maxId) {
+		try {
+			// 스냅샷 이후에 추가된 것
+			bookCache.putAll(bookRepository.findByIdGreaterThan(maxId));
+
+			// 스냅샷 이전 것은 (id, version) 만 읽어서 달라진 것만 다시 읽는다.
+			Map<Long, Long> versions = new HashMap<>();
+			for (Object[] row : bookRepository.findIdAndVersionUpTo(maxId)) {
+				versions.put((Long) row[0], row[1] == null ? 0 : (Long) row[1]);
+			}
+			List<Long> changed = new ArrayList<>();
+			versions.forEach((id, version) -> {
+				Book cached = bookCache.get(id);
+				if (cached != null && version != BookCache.version(cached)) { // 캐시에 없는 것은 읽을 때 채운다.
+					changed.add(id);
+				}
+			});
+			// 그 사이에 삭제된 것은 묘비가 있어서 다시 들어가지 않는다.
+			bookCache.putAll(bookRepository.findAllById(changed));
+			for (Long id : bookCache.ids()) { // 삭제된 것
+				Book cached = bookCache.get(id);
+				if (id <= maxId && !versions.containsKey(id) && cached != null) {
+					bookCache.evict(id, cached.getVersion());
+				}
+			}
+			log.info("book snapshot 맞추기 완료 : 다시 읽은 것 {}건", changed.size());
+		} catch (RuntimeException e) {
+			log.warn("book snapshot 맞추기 실패", e);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(MappedByteBuffer buf) {
+		int length = buf.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buf.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
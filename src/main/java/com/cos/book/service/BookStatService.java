@@ -0,0 +1,168 @@
+package com.cos.book.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cos.book.domain.AuthorStat;
+import com.cos.book.domain.AuthorStatRepository;
+import com.cos.book.domain.BookRepository;
+import com.cos.book.domain.CatalogStat;
+import com.cos.book.domain.CatalogStatRepository;
+import com.cos.book.web.dto.BookStatsRespDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 저자별 책 권수를 메모리에 들고 있다가 저장/수정/삭제 될 때마다 조금씩 갱신한다.
+ * 조회할 때 GROUP BY 를 다시 돌리지 않는다. (AuthorStat, CatalogStat 테이블은 재시작용)
+ * 순위(ranking)도 (권수, 저자) 순으로 정렬된 채로 같이 갱신해서 top n 은 앞에서 n 개만 읽는다.
+ * 다른 서버에서 생긴 변경은 요약 테이블에만 있으므로 book.stats.refresh-ms 마다 테이블에서 다시 읽어 맞춘다.
+ */
+@RequiredArgsConstructor
+@Lazy(false) // fast 프로파일(lazy-initialization)에서도 시작할 때 만든다.
+@Service
+public class BookStatService {
+
+	private final AuthorStatRepository authorStatRepository;
+	private final CatalogStatRepository catalogStatRepository;
+	private final BookRepository bookRepository;
+
+	private volatile Counts counts = new Counts(); // 새로고침시 통째로 바꾼다.
+	private final AtomicLong totalBooks = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		List<AuthorStat> stats;
+		Optional<CatalogStat> total = catalogStatRepository.findById(CatalogStat.TOTAL);
+		if (total.isPresent()) {
+			stats = authorStatRepository.findAll();
+			totalBooks.set(total.get().getBookCount());
+		} else { // 요약이 없으면 한번만 집계해서 채운다.
+			stats = new ArrayList<>();
+			for (Object[] row : bookRepository.countGroupByAuthor()) {
+				AuthorStat stat = new AuthorStat((String) row[0], (Long) row[1]);
+				authorStatRepository.putBookCount(stat.getAuthor(), stat.getBookCount());
+				stats.add(stat);
+			}
+			totalBooks.set(bookRepository.count());
+			catalogStatRepository.putBookCount(CatalogStat.TOTAL, totalBooks.get());
+		}
+		바꾸기(stats);
+	}
+
+	@Scheduled(initialDelayString = "${book.stats.refresh-ms}", fixedDelayString = "${book.stats.refresh-ms}")
+	public void 새로고침() {
+		catalogStatRepository.findById(CatalogStat.TOTAL)
+				.ifPresent(total -> totalBooks.set(total.getBookCount()));
+		바꾸기(authorStatRepository.findAll());
+	}
+
+	// 새로고침과 동시에 커밋된 변경은 다음 새로고침에서 맞춰진다.
+	private void 바꾸기(List<AuthorStat> stats) {
+		Counts loaded = new Counts();
+		stats.forEach(stat -> loaded.add(stat.getAuthor(), stat.getBookCount()));
+		counts = loaded;
+	}
+
+	// 호출하는 쪽 트랜잭션 안에서 요약 테이블을 갱신하고, 메모리는 커밋된 후에 반영한다.
+	// (CatalogStat total 행은 커밋까지 잠기므로 저장/삭제는 이 행에서 줄을 선다)
+	public void 추가하기(String author) {
+		반영하기(author, 1);
+		catalogStatRepository.addBookCount(CatalogStat.TOTAL, 1);
+		AfterCommit.run(() -> {
+			totalBooks.incrementAndGet();
+			add(author, 1);
+		});
+	}
+
+	public void 제거하기(String author) {
+		반영하기(author, -1);
+		catalogStatRepository.addBookCount(CatalogStat.TOTAL, -1);
+		AfterCommit.run(() -> {
+			totalBooks.decrementAndGet();
+			add(author, -1);
+		});
+	}
+
+	public void 변경하기(String oldAuthor, String newAuthor) {
+		if (oldAuthor == null ? newAuthor == null : oldAuthor.equals(newAuthor)) {
+			return;
+		}
+		반영하기(oldAuthor, -1);
+		반영하기(newAuthor, 1);
+		AfterCommit.run(() -> {
+			add(oldAuthor, -1);
+			add(newAuthor, 1);
+		});
+	}
+
+	public BookStatsRespDto 통계가져오기() {
+		return new BookStatsRespDto(totalBooks.get(), counts.authorCounts.size());
+	}
+
+	public List<AuthorStat> 상위저자가져오기(int top) {
+		if (top <= 0) {
+			throw new IllegalArgumentException("top은 1 이상이어야 합니다.");
+		}
+		// 이미 정렬되어 있으므로 앞에서 top 개만 꺼낸다. (복사해서 내보낸다)
+		return counts.ranking.stream()
+				.limit(top)
+				.map(stat -> new AuthorStat(stat.getAuthor(), stat.getBookCount()))
+				.collect(Collectors.toList());
+	}
+
+	private void 반영하기(String author, long delta) {
+		if (author == null) {
+			return;
+		}
+		if (delta > 0) {
+			authorStatRepository.upsertBookCount(author, delta);
+			return;
+		}
+		authorStatRepository.addBookCount(author, delta);
+		authorStatRepository.deleteIfEmpty(author);
+	}
+
+	private void add(String author, long delta) {
+		counts.add(author, delta);
+	}
+
+	private static class Counts {
+		private final Map<String, Long> authorCounts = new ConcurrentHashMap<>();
+		private final NavigableSet<AuthorStat> ranking = new ConcurrentSkipListSet<>(
+				Comparator.comparingLong(AuthorStat::getBookCount).reversed().thenComparing(AuthorStat::getAuthor));
+
+		void add(String author, long delta) {
+			if (author == null) {
+				return;
+			}
+			// compute 는 키 단위로 원자적이다. 0이 되면 null 을 돌려줘서 제거한다.
+			// 같은 저자의 ranking 갱신도 이 안에서 해야 순서가 꼬이지 않는다.
+			authorCounts.compute(author, (key, count) -> {
+				if (count != null) {
+					ranking.remove(new AuthorStat(key, count));
+				}
+				long next = (count == null ? 0 : count) + delta;
+				if (next <= 0) {
+					return null;
+				}
+				ranking.add(new AuthorStat(key, next));
+				return next;
+			});
+		}
+	}
+}
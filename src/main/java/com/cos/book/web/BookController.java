@@ -1,8 +1,13 @@
 package com.cos.book.web;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +15,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.cos.book.domain.Book;
+import com.cos.book.service.BookJsonCache;
 import com.cos.book.service.BookService;
 
 import lombok.RequiredArgsConstructor;
@@ -21,7 +29,12 @@ import lombok.RequiredArgsConstructor;
 @RestController
 public class BookController {
 
+	// findById 응답 헤더는 요청마다 같으므로 한번만 만든다. (읽기 전용)
+	private static final HttpHeaders JSON_HEADERS = 응답헤더(false);
+	private static final HttpHeaders GZIP_HEADERS = 응답헤더(true);
+	
 	private final BookService bookService;
+	private final BookJsonCache bookJsonCache;
 	
 	@PostMapping("/book")
 	public ResponseEntity<?> save(@RequestBody Book book){
@@ -33,9 +46,35 @@ public class BookController {
 		return new ResponseEntity<>(bookService.모두가져오기(), HttpStatus.OK); // 200
 	}
 	
+	@GetMapping("/book/stats")
+	public ResponseEntity<?> stats(){
+		return new ResponseEntity<>(bookService.통계가져오기(), HttpStatus.OK);
+	}
+	
+	@GetMapping("/book/authors")
+	public ResponseEntity<?> topAuthors(@RequestParam(defaultValue = "10") int top){
+		return new ResponseEntity<>(bookService.상위저자가져오기(top), HttpStatus.OK);
+	}
+	
+	@GetMapping("/book/author/{author}")
+	public ResponseEntity<?> findByAuthor(@PathVariable String author, @PageableDefault(size = 20) Pageable pageable){
+		return new ResponseEntity<>(bookService.저자로가져오기(author, pageable), HttpStatus.OK);
+	}
+	
+	@GetMapping("/book/title/{prefix}")
+	public ResponseEntity<?> findByTitlePrefix(@PathVariable String prefix, @PageableDefault(size = 20) Pageable pageable){
+		return new ResponseEntity<>(bookService.제목으로가져오기(prefix, pageable), HttpStatus.OK);
+	}
+	
 	@GetMapping("/book/{id}")
-	public ResponseEntity<?> findById(@PathVariable Long id){
-		return new ResponseEntity<Book>(bookService.한건가져오기(id), HttpStatus.OK);
+	public ResponseEntity<?> findById(@PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+		// 미리 만들어둔 json 바이트를 그대로 쓴다. (byte[] 는 Jackson 을 거치지 않는다)
+		BookJsonCache.Entry entry = bookJsonCache.get(bookService.한건가져오기(id));
+		if (gzip허용(acceptEncoding)) {
+			return new ResponseEntity<>(entry.getGzip(), GZIP_HEADERS, HttpStatus.OK);
+		}
+		return new ResponseEntity<>(entry.getJson(), JSON_HEADERS, HttpStatus.OK);
 	}
 	
 	@PutMapping("/book/{id}")
@@ -47,4 +86,47 @@ public class BookController {
 	public ResponseEntity<?> update(@PathVariable Long id){
 		return new ResponseEntity<>(bookService.삭제하기(id), HttpStatus.OK);
 	}
+	
+	private static HttpHeaders 응답헤더(boolean gzip) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8));
+		headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return HttpHeaders.readOnlyHttpHeaders(headers);
+	}
+	
+	// Accept-Encoding 의 gzip (또는 *) 이 q=0 이 아닐 때만 허용한다. 예) "gzip;q=0, deflate" 는 거절
+	static boolean gzip허용(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String part : acceptEncoding.split(",")) {
+			String[] tokens = part.trim().split(";");
+			String coding = tokens[0].trim().toLowerCase();
+			double q = 1.0;
+			for (int i = 1; i < tokens.length; i++) {
+				String param = tokens[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						q = Double.parseDouble(param.substring(2).trim());
+					} catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			if (coding.equals("gzip") || coding.equals("x-gzip")) {
+				gzip = q;
+			} else if (coding.equals("*")) {
+				any = q;
+			}
+		}
+		if (gzip != null) {
+			return gzip > 0;
+		}
+		return any != null && any > 0;
+	}
 }
@@ -0,0 +1,15 @@
+package com.cos.book.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BookStatsRespDto {
+
+	private long totalBooks;
+	private long totalAuthors;
+
+}
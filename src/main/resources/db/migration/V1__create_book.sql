@@ -0,0 +1,14 @@
+-- 기존에 ddl-auto: create 로 만들던 스키마
+CREATE TABLE Book (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255),
+    author VARCHAR(255),
+    version BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE AuthorStat (
+    author VARCHAR(255) NOT NULL,
+    bookCount BIGINT NOT NULL,
+    PRIMARY KEY (author)
+);
@@ -0,0 +1,5 @@
+-- 저자로 찾기 : WHERE author = ? ORDER BY title, id
+-- 제목으로 찾기 : WHERE title LIKE 'prefix%' ORDER BY title, id
+-- 뒤에 붙은 컬럼까지 있으면 Book 전체 컬럼이 인덱스 안에 있어서 테이블을 다시 읽지 않는다. (covering)
+CREATE INDEX idx_book_author_title ON Book (author, title, id, version);
+CREATE INDEX idx_book_title ON Book (title, id, author, version);
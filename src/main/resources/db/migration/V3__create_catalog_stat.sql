@@ -0,0 +1,6 @@
+-- 전체 책 권수 요약 (재시작시 count(*) 를 다시 하지 않기 위함)
+CREATE TABLE CatalogStat (
+    name VARCHAR(50) NOT NULL,
+    bookCount BIGINT NOT NULL,
+    PRIMARY KEY (name)
+);
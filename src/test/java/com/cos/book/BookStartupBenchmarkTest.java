@@ -0,0 +1,127 @@
+package com.cos.book;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 시작 시간 벤치마크 : 프로세스 실행부터 첫 GET /book 성공까지 걸린 시간
+ * 실행 : ./mvnw test -Pbenchmark (-Dstartup.runs=5 -Dstartup.max-ratio=0.9 -Dstartup.budget-ms=8000)
+ * 다른 DB 로 띄우려면 -Dstartup.app-args="--spring.datasource.url=..." 처럼 앱 인자를 넘긴다.
+ * 
+ * 클래스 로딩, JIT 이 앞의 실행 덕을 보지 않도록 매번 새 JVM 으로 띄운다. (dev, fast 를 번갈아 실행)
+ * 클래스패스는 -Pbenchmark 가 만든 target/runtime-classpath.txt (target/classes + 런타임 의존성) 만 쓴다.
+ * 테스트 클래스가 섞이면 운영에서는 없는 빈이 뜨기 때문이다.
+ * 판단 기준 (중앙값) : fast 가 budget-ms 안에 떠야 하고, dev 대비 max-ratio 배를 넘지 않아야 한다.
+ */
+@Slf4j
+@Tag("benchmark")
+public class BookStartupBenchmarkTest {
+
+	private static final int RUNS = Integer.getInteger("startup.runs", 3);
+	private static final double MAX_RATIO = Double.parseDouble(System.getProperty("startup.max-ratio", "1.0"));
+	private static final long BUDGET_MS = Long.getLong("startup.budget-ms", 20_000); // 장비에 맞게 기준을 잡아서 넘긴다.
+	private static final String APP_ARGS = System.getProperty("startup.app-args", "").trim();
+	private static final long TIMEOUT_MS = 120_000;
+	private static final File LOG = new File("target/startup-benchmark.log"); // 띄운 앱의 로그
+
+	@Test
+	public void 시작시간_테스트() throws Exception {
+		List<Long> dev = new ArrayList<>();
+		List<Long> fast = new ArrayList<>();
+		for (int i = 0; i < RUNS; i++) {
+			dev.add(첫요청까지("dev"));
+			fast.add(첫요청까지("dev,fast"));
+		}
+
+		long devMedian = median(dev);
+		long fastMedian = median(fast);
+		double ratio = (double) fastMedian / devMedian;
+		log.info("time-to-first GET /book (중앙값) : dev={}ms {}, fast={}ms {}, ratio={}", devMedian, dev, fastMedian, fast, ratio);
+		assertTrue(fastMedian <= BUDGET_MS, "fast 시작이 " + fastMedian + "ms 걸렸습니다. (기준 " + BUDGET_MS + "ms)");
+		assertTrue(ratio <= MAX_RATIO, "fast 시작이 dev 의 " + ratio + "배 입니다. (기준 " + MAX_RATIO + ")");
+	}
+
+	private long 첫요청까지(String profiles) throws Exception {
+		int port = freePort();
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		List<String> command = new ArrayList<>(Arrays.asList(java,
+				"-Dspring.devtools.restart.enabled=false", // devtools 는 시스템 프로퍼티만 본다.
+				"-cp", 클래스패스(),
+				BookApplication.class.getName(),
+				"--spring.profiles.active=" + profiles,
+				"--server.port=" + port));
+		if (!APP_ARGS.isEmpty()) {
+			command.addAll(Arrays.asList(APP_ARGS.split("\\s+")));
+		}
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.appendTo(LOG)).start();
+		try {
+			while (System.nanoTime() - start < TIMEOUT_MS * 1_000_000) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException(profiles + " 프로세스가 종료되었습니다. exit=" + process.exitValue());
+				}
+				if (ok("http://localhost:" + port + "/book")) {
+					return (System.nanoTime() - start) / 1_000_000;
+				}
+				Thread.sleep(10);
+			}
+			throw new IllegalStateException(profiles + " 가 " + TIMEOUT_MS + "ms 안에 뜨지 않았습니다.");
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	private static String 클래스패스() throws IOException {
+		File dependencies = new File("target/runtime-classpath.txt");
+		if (!dependencies.exists()) {
+			throw new IllegalStateException(dependencies + " 가 없습니다. ./mvnw test -Pbenchmark 로 실행해주세요.");
+		}
+		String classpath = new String(Files.readAllBytes(dependencies.toPath()), StandardCharsets.UTF_8).trim();
+		return new File("target/classes").getAbsolutePath() + File.pathSeparator + classpath;
+	}
+
+	private static boolean ok(String url) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+			connection.setConnectTimeout(100);
+			connection.setReadTimeout(30_000);
+			try {
+				return connection.getResponseCode() == 200;
+			} finally {
+				connection.disconnect();
+			}
+		} catch (IOException e) {
+			return false; // 아직 안 떴음
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static long median(List<Long> values) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+}
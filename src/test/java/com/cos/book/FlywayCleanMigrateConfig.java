@@ -0,0 +1,25 @@
+package com.cos.book;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 통합 테스트용 : 컨텍스트가 뜰 때마다 스키마를 지우고 (flyway.clean) 다시 만든다. (flyway.migrate)
+ * ddl-auto: create 를 쓸 때처럼 매번 빈 DB 에서 시작하게 하기 위함. 필요한 테스트에서 @Import 한다.
+ * 스캔에서 빠지는 것에 기대지 않는다. (컴포넌트 인덱스로 스캔되면 TestConfiguration 도 올라온다)
+ * test 프로파일(testdb)일 때만 빈을 만들어서 dev/운영 DB 는 절대 지우지 않는다.
+ */
+@TestConfiguration
+public class FlywayCleanMigrateConfig {
+
+	@Profile("test")
+	@Bean
+	public FlywayMigrationStrategy cleanMigrateStrategy() {
+		return flyway -> {
+			flyway.clean();
+			flyway.migrate();
+		};
+	}
+}
@@ -2,8 +2,13 @@ package com.cos.book.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
@@ -11,6 +16,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -21,12 +30,18 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 @ActiveProfiles("test")
 @AutoConfigureTestDatabase(replace = Replace.ANY)   // 실제DB테스트 Replace.NONE, 내장DB테스트 Replace.ANY
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.cos.book.domain.SqlCaptureInspector")
 public class BookRepositoryTest {
 
 	@Autowired
 	private BookRepository bookRepository;
 	
+	@Autowired
+	private EntityManager entityManager;
+	
+	@Autowired
+	private DataSource dataSource;
+	
 	@Test
 	public void save_테스트() {
 		// given
@@ -58,4 +73,96 @@ public class BookRepositoryTest {
 		assertEquals(2, bookEntitys.size());
 	}
 	
+	@Test
+	public void findByAuthor_테스트() {
+		// given
+		bookRepository.saveAll(
+				Arrays.asList(
+						new Book(null, "스프링부트 따라하기", "코스"),
+						new Book(null, "리엑트 따라하기", "코스"),
+						new Book(null, "자바 따라하기", "메타")
+				)
+			);
+		
+		// when
+		Page<Book> bookEntitys = bookRepository.findByAuthor("코스", PageRequest.of(0, 1, Sort.by("title", "id")));
+		
+		// then
+		assertEquals(2, bookEntitys.getTotalElements());
+		assertEquals("리엑트 따라하기", bookEntitys.getContent().get(0).getTitle());
+	}
+	
+	@Test
+	public void findByTitleStartingWith_테스트() {
+		// given
+		bookRepository.saveAll(
+				Arrays.asList(
+						new Book(null, "스프링부트 따라하기", "코스"),
+						new Book(null, "스프링 시큐리티", "코스"),
+						new Book(null, "리엑트 따라하기", "코스")
+				)
+			);
+		
+		// when
+		Page<Book> bookEntitys = bookRepository.findByTitleStartingWith("스프링", PageRequest.of(0, 10, Sort.by("title", "id")));
+		
+		// then
+		assertEquals(2, bookEntitys.getTotalElements());
+		assertEquals("스프링 시큐리티", bookEntitys.getContent().get(0).getTitle());
+	}
+	
+	/**
+	 * 실행계획 확인 (V2__add_book_lookup_indexes.sql)
+	 * 손으로 쓴 SQL 이 아니라 findByAuthor, findByTitleStartingWith 가 실제로 만든 SQL (count 쿼리 포함) 을 EXPLAIN 한다.
+	 * H2 는 한 줄짜리 문자열, MySQL 은 컬럼별 row 로 나오므로 전부 문자열로 합쳐서 인덱스 이름을 찾는다.
+	 */
+	@Test
+	public void 인덱스_실행계획_테스트() {
+		// given (빈 테이블이면 옵티마이저가 인덱스를 안 쓸 수 있으므로 데이터를 채운다)
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			books.add(new Book(null, (i % 5 == 0 ? "스프링 " : "책 ") + i, "저자" + (i % 50)));
+		}
+		bookRepository.saveAll(books);
+		entityManager.flush();
+		
+		// when (size 1 로 가져와야 count 쿼리도 나간다)
+		SqlCaptureInspector.clear();
+		bookRepository.findByAuthor("저자1", PageRequest.of(0, 1, Sort.by("title", "id")));
+		List<String> byAuthor = SqlCaptureInspector.captured();
+		
+		SqlCaptureInspector.clear();
+		bookRepository.findByTitleStartingWith("스프링", PageRequest.of(0, 1, Sort.by("title", "id")));
+		List<String> byTitle = SqlCaptureInspector.captured();
+		
+		// then
+		assertEquals(2, byAuthor.size()); // select + count
+		assertEquals(2, byTitle.size());
+		for (String sql : byAuthor) {
+			String plan = explain(sql, "저자1");
+			log.info(sql + " => " + plan);
+			assertTrue(plan.contains("idx_book_author_title"), plan);
+		}
+		for (String sql : byTitle) {
+			assertTrue(sql.toLowerCase().contains("like"), sql);
+			String plan = explain(sql, "스프링%");
+			log.info(sql + " => " + plan);
+			assertTrue(plan.contains("idx_book_title"), plan);
+		}
+	}
+	
+	// 파라미터 순서 : 조건 값, (like ? escape ? 이면) 이스케이프 문자, 나머지는 limit/offset
+	private String explain(String sql, String value) {
+		List<Object> params = new ArrayList<>();
+		params.add(value);
+		if (sql.toLowerCase().contains("escape ?")) {
+			params.add("\\");
+		}
+		long placeholders = sql.chars().filter(c -> c == '?').count();
+		while (params.size() < placeholders) {
+			params.add(1);
+		}
+		List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList("EXPLAIN " + sql, params.toArray());
+		return rows.toString().toLowerCase();
+	}
 }
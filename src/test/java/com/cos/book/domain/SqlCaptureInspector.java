@@ -0,0 +1,30 @@
+package com.cos.book.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 가 실제로 만든 SQL 을 모아둔다. (실행계획 테스트용)
+ * hibernate.session_factory.statement_inspector 로 등록한다.
+ */
+public class SqlCaptureInspector implements StatementInspector {
+
+	private static final List<String> sqls = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		sqls.add(sql);
+		return sql;
+	}
+
+	public static void clear() {
+		sqls.clear();
+	}
+
+	public static List<String> captured() {
+		return new ArrayList<>(sqls);
+	}
+}
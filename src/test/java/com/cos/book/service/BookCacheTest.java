@@ -0,0 +1,45 @@
+package com.cos.book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.cos.book.domain.Book;
+
+public class BookCacheTest {
+
+	@Test
+	public void 꺼져있으면_사용안함_테스트() {
+		BookCache bookCache = new BookCache(false, 1000, 600);
+
+		bookCache.put(new Book(1L, "스프링부트 따라하기", "코스", 0L));
+
+		assertNull(bookCache.get(1L));
+	}
+
+	@Test
+	public void 높은버전만_남김_테스트() {
+		BookCache bookCache = new BookCache(true, 1000, 600);
+
+		bookCache.put(new Book(1L, "Junit5 실습하기", "코스", 1L));
+		bookCache.put(new Book(1L, "스프링부트 따라하기", "코스", 0L)); // 늦게 도착한 옛날 값
+
+		assertEquals("Junit5 실습하기", bookCache.get(1L).getTitle());
+	}
+
+	@Test
+	public void 삭제후_늦은put_거절_테스트() {
+		// given (삭제 전에 읽은 값)
+		BookCache bookCache = new BookCache(true, 1000, 600);
+		Book read = new Book(1L, "스프링부트 따라하기", "코스", 0L);
+
+		// when (삭제 커밋 -> 읽은 쪽 커밋 순서)
+		bookCache.evict(1L, 0L);
+		bookCache.put(read);
+
+		// then
+		assertNull(bookCache.get(1L));
+		assertEquals(0, bookCache.size());
+	}
+}
@@ -1,6 +1,8 @@
 package com.cos.book.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,15 @@ public class BookServiceTest {
 	@Mock
 	private BookRepository bookRepository;
 	
+	@Mock
+	private BookStatService bookStatService;
+	
+	@Mock
+	private BookCache bookCache;
+	
+	@Mock
+	private BookJsonCache bookJsonCache;
+	
 	@Test
 	public void 저장하기_테스트() {
 
@@ -41,5 +52,20 @@ public class BookServiceTest {
 		
 		// then
 		assertEquals(bookEntity, book);
+		verify(bookStatService).추가하기("책저자1");
+	}
+	
+	@Test
+	public void 저장하기_id무시_테스트() {
+		// given (id, version 을 보내도 새로 추가해야 한다)
+		Book book = new Book(1L, "책제목1", "책저자1", 0L);
+		when(bookRepository.save(book)).thenReturn(book);
+		
+		// test execute
+		Book bookEntity = bookService.저장하기(book);
+		
+		// then
+		assertNull(bookEntity.getId());
+		assertNull(bookEntity.getVersion());
 	}
 }
@@ -0,0 +1,103 @@
+package com.cos.book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import com.cos.book.domain.Book;
+import com.cos.book.domain.BookRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class BookSnapshotServiceTest {
+
+	@Mock
+	private BookRepository bookRepository;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	public void 저장하기_불러오기_테스트() throws Exception {
+		// given
+		Path path = dir.resolve("book.snapshot");
+		when(bookRepository.findAll(any(Sort.class))).thenReturn(Arrays.asList(
+				new Book(1L, "스프링부트 따라하기", "코스", 0L),
+				new Book(2L, "리엑트 따라하기", null, 3L)));
+		new BookSnapshotService(bookRepository, new BookCache(true, 1000, 600), path.toString()).저장하기();
+
+		// when
+		BookCache bookCache = new BookCache(true, 1000, 600);
+		long maxId = new BookSnapshotService(bookRepository, bookCache, path.toString()).불러오기();
+
+		// then
+		assertEquals(2L, maxId);
+		assertEquals(2, bookCache.size());
+		assertEquals("스프링부트 따라하기", bookCache.get(1L).getTitle());
+		assertNull(bookCache.get(2L).getAuthor());
+		assertEquals(3L, bookCache.get(2L).getVersion());
+	}
+
+	@Test
+	public void 맞추기_테스트() throws Exception {
+		// given (스냅샷 : 1, 2, 3 / DB : 1 그대로, 2 수정됨, 3 삭제됨, 4 추가됨)
+		BookCache bookCache = new BookCache(true, 1000, 600);
+		bookCache.putAll(Arrays.asList(
+				new Book(1L, "a", "코스", 0L),
+				new Book(2L, "b", "코스", 0L),
+				new Book(3L, "c", "코스", 0L)));
+		when(bookRepository.findByIdGreaterThan(3L)).thenReturn(Arrays.asList(new Book(4L, "d", "코스", 0L)));
+		when(bookRepository.findIdAndVersionUpTo(3L)).thenReturn(Arrays.asList(
+				new Object[] { 1L, 0L },
+				new Object[] { 2L, 1L }));
+		when(bookRepository.findAllById(Collections.singletonList(2L))).thenReturn(Arrays.asList(new Book(2L, "b2", "코스", 1L)));
+		BookSnapshotService bookSnapshotService = new BookSnapshotService(bookRepository, bookCache, dir.resolve("none").toString());
+
+		// when
+		bookSnapshotService.맞추기(3L);
+
+		// then
+		assertEquals(3, bookCache.size());
+		assertEquals("b2", bookCache.get(2L).getTitle());
+		assertNull(bookCache.get(3L));
+		assertEquals("d", bookCache.get(4L).getTitle());
+	}
+
+	@Test
+	public void 파일없음_테스트() {
+		BookSnapshotService bookSnapshotService = new BookSnapshotService(bookRepository, new BookCache(true, 1000, 600), dir.resolve("none").toString());
+		assertEquals(0L, bookSnapshotService.불러오기());
+		assertFalse(Files.exists(dir.resolve("none")));
+	}
+
+	@Test
+	public void 깨진건수_테스트() throws Exception {
+		// given (헤더의 건수만 Integer.MAX_VALUE 인 파일)
+		Path path = dir.resolve("broken.snapshot");
+		ByteBuffer header = ByteBuffer.allocate(20);
+		header.putInt(0x424F4F4B).putInt(1).putLong(10L).putInt(Integer.MAX_VALUE);
+		Files.write(path, header.array());
+		BookCache bookCache = new BookCache(true, 1000, 600);
+
+		// when
+		long maxId = new BookSnapshotService(bookRepository, bookCache, path.toString()).불러오기();
+
+		// then
+		assertEquals(0L, maxId);
+		assertEquals(0, bookCache.size());
+	}
+}
@@ -0,0 +1,119 @@
+package com.cos.book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.cos.book.domain.AuthorStat;
+import com.cos.book.domain.AuthorStatRepository;
+import com.cos.book.domain.BookRepository;
+import com.cos.book.domain.CatalogStat;
+import com.cos.book.domain.CatalogStatRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class BookStatServiceTest {
+
+	@InjectMocks
+	private BookStatService bookStatService;
+
+	@Mock
+	private AuthorStatRepository authorStatRepository;
+
+	@Mock
+	private CatalogStatRepository catalogStatRepository;
+
+	@Mock
+	private BookRepository bookRepository;
+
+	@Test
+	public void init_요약테이블_테스트() {
+		// given (요약이 있으면 count, GROUP BY 를 하지 않는다)
+		when(catalogStatRepository.findById(CatalogStat.TOTAL)).thenReturn(Optional.of(new CatalogStat(CatalogStat.TOTAL, 5)));
+		when(authorStatRepository.findAll()).thenReturn(Arrays.asList(new AuthorStat("코스", 3), new AuthorStat("메타", 2)));
+
+		// when
+		bookStatService.init();
+
+		// then
+		assertEquals(5, bookStatService.통계가져오기().getTotalBooks());
+		assertEquals("코스", bookStatService.상위저자가져오기(1).get(0).getAuthor());
+		verify(bookRepository, never()).count();
+		verify(bookRepository, never()).countGroupByAuthor();
+	}
+
+	@Test
+	public void 추가하기_제거하기_테스트() {
+		// given (트랜잭션 밖이라 메모리에 바로 반영된다)
+
+		// when
+		bookStatService.추가하기("코스");
+		bookStatService.추가하기("코스");
+		bookStatService.추가하기(null);
+		bookStatService.제거하기("코스");
+
+		// then
+		assertEquals(2, bookStatService.통계가져오기().getTotalBooks());
+		assertEquals(1, bookStatService.통계가져오기().getTotalAuthors());
+		verify(authorStatRepository, times(2)).upsertBookCount("코스", 1);
+		verify(authorStatRepository).deleteIfEmpty("코스");
+		verify(catalogStatRepository, times(3)).addBookCount(CatalogStat.TOTAL, 1);
+	}
+
+	@Test
+	public void 새로고침_테스트() {
+		// given (이 서버에서 1권, 다른 서버들 것까지 합치면 요약 테이블에는 4권)
+		bookStatService.추가하기("코스");
+		when(catalogStatRepository.findById(CatalogStat.TOTAL)).thenReturn(Optional.of(new CatalogStat(CatalogStat.TOTAL, 4)));
+		when(authorStatRepository.findAll()).thenReturn(Arrays.asList(new AuthorStat("코스", 1), new AuthorStat("메타", 3)));
+
+		// when
+		bookStatService.새로고침();
+
+		// then
+		assertEquals(4, bookStatService.통계가져오기().getTotalBooks());
+		assertEquals(2, bookStatService.통계가져오기().getTotalAuthors());
+		assertEquals("메타", bookStatService.상위저자가져오기(1).get(0).getAuthor());
+	}
+
+	@Test
+	public void 상위저자가져오기_테스트() {
+		// given
+		bookStatService.추가하기("코스");
+		bookStatService.추가하기("메타");
+		bookStatService.추가하기("메타");
+		bookStatService.변경하기("코스", "메타");
+
+		// when
+		List<AuthorStat> authors = bookStatService.상위저자가져오기(5);
+
+		// then
+		assertEquals(1, authors.size());
+		assertEquals("메타", authors.get(0).getAuthor());
+		assertEquals(3, authors.get(0).getBookCount());
+		assertThrows(IllegalArgumentException.class, () -> bookStatService.상위저자가져오기(0));
+
+		// 권수가 줄면 순위도 바로 바뀐다.
+		bookStatService.추가하기("코스");
+		bookStatService.추가하기("코스");
+		bookStatService.제거하기("메타");
+		bookStatService.제거하기("메타");
+		List<String> names = bookStatService.상위저자가져오기(5).stream()
+				.map(AuthorStat::getAuthor)
+				.collect(Collectors.toList());
+		assertEquals(Arrays.asList("코스", "메타"), names);
+	}
+}
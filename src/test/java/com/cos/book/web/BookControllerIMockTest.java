@@ -19,8 +19,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -28,6 +30,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cos.book.FlywayCleanMigrateConfig;
 import com.cos.book.domain.Book;
 import com.cos.book.domain.BookRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -41,6 +44,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @Transactional
 // 모든 트랜잭션 작업이 각각의 테스트 종료후 rollback 된다.
 @AutoConfigureMockMvc // MockMvc를 빈으로 등록해준다.
+@ActiveProfiles("test") // testdb 를 쓴다. (FlywayCleanMigrateConfig 는 test 프로파일에서만 동작)
+@Import(FlywayCleanMigrateConfig.class) // 이전 실행에서 커밋된 데이터를 지우고 시작한다.
 @SpringBootTest(webEnvironment = WebEnvironment.MOCK) // 서블릿을 mocking 한것이 동작한다. (내장 톰켓 사용 안함)
 public class BookControllerIMockTest {
 
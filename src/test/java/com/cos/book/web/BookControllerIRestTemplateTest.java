@@ -8,14 +8,17 @@ import org.junit.jupiter.api.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.ResponseEntity;
 
+import com.cos.book.FlywayCleanMigrateConfig;
 import com.cos.book.domain.Book;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.DocumentContext;
@@ -29,6 +32,8 @@ import com.jayway.jsonpath.JsonPath;
  */
 
 // TestRestTemplate는 MSA할 때....
+@ActiveProfiles("test") // testdb 를 쓴다. (FlywayCleanMigrateConfig 는 test 프로파일에서만 동작)
+@Import(FlywayCleanMigrateConfig.class) // 이전 실행에서 커밋된 데이터를 지우고 시작한다.
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT) // 실제 내장 톰켓이 랜덤 포트로 올라온다. 
 public class BookControllerIRestTemplateTest {
 	
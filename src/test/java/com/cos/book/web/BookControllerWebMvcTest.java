@@ -2,31 +2,46 @@ package com.cos.book.web;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
+import com.cos.book.domain.AuthorStat;
 import com.cos.book.domain.Book;
+import com.cos.book.service.BookJsonCache;
 import com.cos.book.service.BookService;
+import com.cos.book.web.dto.BookStatsRespDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -44,6 +59,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * 기대값에 content() 사용
  */
 
+@Import(BookJsonCache.class) // findById 응답 바이트 캐시
 @WebMvcTest(BookController.class)
 public class BookControllerWebMvcTest {
 
@@ -111,6 +127,45 @@ public class BookControllerWebMvcTest {
 			.andDo(MockMvcResultHandlers.print());
 	}
 	
+	@Test
+	public void findById_gzip_테스트() throws Exception {
+		// given
+		Long id = 1L;
+		when(bookService.한건가져오기(id)).thenReturn(new Book(1L, "스프링부트 따라하기", "코스", 0L));
+		
+		// when
+		ResultActions resultAction = mockMvc.perform(get("/book/{id}", id)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.accept(MediaType.APPLICATION_JSON_UTF8));
+		
+		// then
+		resultAction
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+		
+		byte[] gzip = resultAction.andReturn().getResponse().getContentAsByteArray();
+		String json = StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(gzip)), StandardCharsets.UTF_8);
+		assertEquals(new ObjectMapper().readValue(json, Book.class), new Book(1L, "스프링부트 따라하기", "코스", 0L));
+	}
+	
+	@Test
+	public void findById_gzip_q0_테스트() throws Exception {
+		// given
+		Long id = 1L;
+		when(bookService.한건가져오기(id)).thenReturn(new Book(1L, "스프링부트 따라하기", "코스", 0L));
+		
+		// when (gzip 을 거절함)
+		ResultActions resultAction = mockMvc.perform(get("/book/{id}", id)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate")
+				.accept(MediaType.APPLICATION_JSON_UTF8));
+		
+		// then
+		resultAction
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(jsonPath("$.title").value("스프링부트 따라하기"));
+	}
+	
 	@Test
 	public void update_테스트() throws Exception {
 		// given
@@ -149,4 +204,60 @@ public class BookControllerWebMvcTest {
 		String result = requestResult.getResponse().getContentAsString();
 		assertEquals("ok", result);
 	}
+	
+	@Test
+	public void stats_테스트() throws Exception {
+		// given
+		when(bookService.통계가져오기()).thenReturn(new BookStatsRespDto(3, 2));
+		
+		// when
+		ResultActions resultAction = mockMvc.perform(get("/book/stats")
+				.accept(MediaType.APPLICATION_JSON_UTF8));
+		
+		// then
+		resultAction
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.totalBooks").value(3))
+			.andExpect(jsonPath("$.totalAuthors").value(2))
+			.andDo(MockMvcResultHandlers.print());
+	}
+	
+	@Test
+	public void topAuthors_테스트() throws Exception {
+		// given
+		when(bookService.상위저자가져오기(1)).thenReturn(Arrays.asList(new AuthorStat("코스", 2)));
+		
+		// when
+		ResultActions resultAction = mockMvc.perform(get("/book/authors")
+				.param("top", "1")
+				.accept(MediaType.APPLICATION_JSON_UTF8));
+		
+		// then
+		resultAction
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.*", Matchers.hasSize(1)))
+			.andExpect(jsonPath("$.[0].author").value("코스"))
+			.andExpect(jsonPath("$.[0].bookCount").value(2))
+			.andDo(MockMvcResultHandlers.print());
+	}
+	
+	@Test
+	public void findByAuthor_테스트() throws Exception {
+		// given
+		when(bookService.저자로가져오기(eq("코스"), any(Pageable.class)))
+			.thenReturn(new PageImpl<>(Arrays.asList(new Book(1L, "리엑트 따라하기", "코스"), new Book(2L, "스프링부트 따라하기", "코스"))));
+		
+		// when
+		ResultActions resultAction = mockMvc.perform(get("/book/author/{author}", "코스")
+				.param("page", "0")
+				.param("size", "2")
+				.accept(MediaType.APPLICATION_JSON_UTF8));
+		
+		// then
+		resultAction
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content", Matchers.hasSize(2)))
+			.andExpect(jsonPath("$.content[0].title").value("리엑트 따라하기"))
+			.andDo(MockMvcResultHandlers.print());
+	}
 }
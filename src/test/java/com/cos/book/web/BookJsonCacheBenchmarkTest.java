@@ -0,0 +1,124 @@
+package com.cos.book.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cos.book.domain.Book;
+import com.cos.book.service.BookJsonCache;
+import com.cos.book.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * GET /book/{id} 전체 경로 벤치마크 (DispatcherServlet -> 메시지 컨버터 선택 -> 응답 쓰기)
+ * 예전 핸들러 (ResponseEntity<Book>, 매번 Jackson) vs 지금 핸들러 (BookJsonCache 바이트)
+ * 실행 : ./mvnw test -Pbenchmark -Dtest=BookJsonCacheBenchmarkTest
+ * 결과는 로그의 ops/s, bytes/op 를 본다. (HotSpot 의 스레드 할당량 카운터 사용)
+ * BookService 는 같은 Book 을 돌려주는 stub 이라 DB 비용은 빠져있다. (캐시 적중 상태를 재는 것)
+ */
+@Slf4j
+@Tag("benchmark")
+public class BookJsonCacheBenchmarkTest {
+
+	private static final int WARMUP = 20_000;
+	private static final int ITERATIONS = 100_000;
+	private static final int ROUNDS = 3;
+
+	// 바뀌기 전 핸들러
+	@RequiredArgsConstructor
+	@RestController
+	static class LegacyBookController {
+		private final BookService bookService;
+
+		@GetMapping("/legacy/book/{id}")
+		public ResponseEntity<?> findById(@PathVariable Long id){
+			return new ResponseEntity<Book>(bookService.한건가져오기(id), HttpStatus.OK);
+		}
+	}
+
+	@Test
+	public void findById_비교_테스트() throws Exception {
+		BookService bookService = mock(BookService.class, withSettings().stubOnly());
+		when(bookService.한건가져오기(1L)).thenReturn(new Book(1L, "스프링부트 따라하기", "코스", 3L));
+		MockMvc mockMvc = MockMvcBuilders
+				.standaloneSetup(new LegacyBookController(bookService),
+						new BookController(bookService, new BookJsonCache(new ObjectMapper(), 1000)))
+				.build();
+
+		RequestBuilder legacyRequest = get("/legacy/book/{id}", 1L).accept(MediaType.APPLICATION_JSON);
+		RequestBuilder cachedRequest = get("/book/{id}", 1L).accept(MediaType.APPLICATION_JSON);
+		RequestBuilder gzipRequest = get("/book/{id}", 1L).accept(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+		// 먼저 재는 쪽이 JIT 에서 손해를 보지 않도록 번갈아 여러번 재고 가장 좋은 값을 쓴다.
+		Result legacy = null, cached = null, cachedGzip = null;
+		for (int round = 0; round < ROUNDS; round++) {
+			legacy = Result.best(legacy, 측정하기(mockMvc, legacyRequest));
+			cached = Result.best(cached, 측정하기(mockMvc, cachedRequest));
+			cachedGzip = Result.best(cachedGzip, 측정하기(mockMvc, gzipRequest));
+		}
+
+		log.info("legacy (Jackson)  : {} ops/s, {} bytes/op", legacy.opsPerSec, legacy.bytesPerOp);
+		log.info("cached json       : {} ops/s, {} bytes/op", cached.opsPerSec, cached.bytesPerOp);
+		log.info("cached gzip       : {} ops/s, {} bytes/op", cachedGzip.opsPerSec, cachedGzip.bytesPerOp);
+		assertTrue(cached.bytesPerOp < legacy.bytesPerOp);
+		assertTrue(cached.opsPerSec > legacy.opsPerSec);
+	}
+
+	private Result 측정하기(MockMvc mockMvc, RequestBuilder request) throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			assertEquals(200, mockMvc.perform(request).andReturn().getResponse().getStatus());
+		}
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			mockMvc.perform(request);
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = allocatedBytes() - allocatedBefore;
+		return new Result(ITERATIONS * 1_000_000_000L / elapsed, allocated / ITERATIONS);
+	}
+
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	static class Result {
+		final long opsPerSec;
+		final long bytesPerOp;
+
+		Result(long opsPerSec, long bytesPerOp) {
+			this.opsPerSec = opsPerSec;
+			this.bytesPerOp = bytesPerOp;
+		}
+
+		static Result best(Result a, Result b) {
+			if (a == null) {
+				return b;
+			}
+			return new Result(Math.max(a.opsPerSec, b.opsPerSec), Math.min(a.bytesPerOp, b.bytesPerOp));
+		}
+	}
+}